@@ -6,6 +6,7 @@ import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.PowerManager;
+import android.util.Base64;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
@@ -42,13 +43,7 @@ public class App extends Activity {
         App.sdkVersionView = (TextView) this.findViewById(R.id.sdk_version);
         App.infoView = (TextView) this.findViewById(R.id.info_message);
         App.resultView = (TextView) this.findViewById(R.id.result);
-        String privateKey = AppState.getEncryptionStorage("privateKey");
-        String publicKey = AppState.getEncryptionStorage("publicKey");
-        if (privateKey != null && privateKey.length() > 0) {
-            App.infoView.setText("Private key: " + privateKey);
-        } else {
-            App.infoView.setText("No private key found");
-        }
+        App.showPrivateKey();
     }
 
     @Override
@@ -64,12 +59,7 @@ public class App extends Activity {
             batteryOptimization = "off";
         }
 
-        String privateKey = AppState.getEncryptionStorage("privateKey");
-        if (privateKey != null && privateKey.length() > 0) {
-            App.infoView.setText("Private key: " + privateKey);
-        } else {
-            App.infoView.setText("No private key found");
-        }
+        App.showPrivateKey();
 
         Button createWalletBtn = (Button) this.findViewById(R.id.buttonOpenSetKeyDialog);
         String mnemonic = AppState.getEncryptionStorage("mnemonic");
@@ -82,6 +72,24 @@ public class App extends Activity {
         ((TextView) this.findViewById(R.id.battery_optimization)).setText("Power restrictions: " + batteryOptimization);
     }
 
+    // Shows the Mainnet key, which is the key that was used before there were per-stage keys.
+    // The first load decrypts the ring, and right after an upgrade derives and encrypts it, so it
+    // runs off the main thread
+    private static void showPrivateKey() {
+        new Thread(() -> {
+            try {
+                OracleKey key = AppState.requireKeyRing().get(Stage.MAINNET);
+                if (key != null) {
+                    AppState.setInfoMessage("Private key: " + Base64.encodeToString(key.getPrivateKey(), Base64.DEFAULT));
+                } else {
+                    AppState.setInfoMessage("No private key found");
+                }
+            } catch (Exception e) {
+                AppState.setInfoMessage("Error: unable to load keys - " + e.getMessage());
+            }
+        }).start();
+    }
+
     public static void setInfoMessage(String message) {
         App.infoView.setText(message);
     }
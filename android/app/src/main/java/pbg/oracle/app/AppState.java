@@ -5,6 +5,10 @@ import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 import android.provider.Settings;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AppState {
     // With `handler`, App methods on the main thread can be called from other threads
@@ -13,18 +17,33 @@ public class AppState {
     private static Storage storage;
     private static int deviceID;
 
+    // Decrypted lazily on first use, then shared by all stage workers
+    private static volatile KeyRing keyRing;
+
+    // Built once per stage key, so requests only add a nonce and a signature
+    private static final Map<Stage, RequestIdentity> identities = new ConcurrentHashMap<>();
+
     // init must be called before calling other methods
     public static void init(Context context) {
         AppState.storage = new Storage(context.getApplicationContext());
-        String androidId = Settings.Secure.getString(
-            context.getContentResolver(),
-            Settings.Secure.ANDROID_ID
-        );
 
-        if (androidId == null) {
-            androidId = Build.SERIAL;
+        // The device id is resolved once and then persisted, so it stays the same even if
+        // ANDROID_ID changes (e.g. after the app is re-signed)
+        try {
+            AppState.deviceID = Integer.parseInt(AppState.storage.getStorage("deviceId"));
+        } catch (NumberFormatException e) {
+            String androidId = Settings.Secure.getString(
+                context.getContentResolver(),
+                Settings.Secure.ANDROID_ID
+            );
+
+            if (androidId == null) {
+                androidId = Build.SERIAL;
+            }
+
+            AppState.deviceID = RequestIdentity.deviceIdFromAndroidId(androidId);
+            AppState.storage.setStorage("deviceId", Integer.toString(AppState.deviceID));
         }
-        AppState.deviceID = deviceID;
     }
 
     public static int getDeviceID() {
@@ -48,7 +67,98 @@ public class AppState {
         AppState.storage.setEncryptionStorage(key, data);
     }
 
+    public static void setEncryptionStorage(Map<String, String> entries) {
+        AppState.storage.setEncryptionStorage(entries);
+    }
+
     public static String getEncryptionStorage(String key) {
         return AppState.storage.getEncryptionStorage(key);
     }
+
+    // Returns an empty KeyRing if no keys have been stored yet.
+    // If the stored keys can't be read (e.g. the Keystore is briefly unavailable), the error is
+    // shown and an empty KeyRing is returned without caching it, so the next call tries again
+    public static KeyRing getKeyRing() {
+        try {
+            return AppState.requireKeyRing();
+        } catch (Exception e) {
+            AppState.setInfoMessage("Error: unable to load keys - " + e.getMessage());
+            return new KeyRing();
+        }
+    }
+
+    // Like getKeyRing, but throws if the stored keys can't be read
+    public static KeyRing requireKeyRing() throws Exception {
+        KeyRing ring = AppState.keyRing;
+
+        if (ring == null) {
+            synchronized (AppState.class) {
+                ring = AppState.keyRing;
+
+                if (ring == null) {
+                    ring = AppState.loadKeyRing();
+                    AppState.keyRing = ring;
+                }
+            }
+        }
+
+        return ring;
+    }
+
+    // The caller is expected to persist the ring together with any other secrets, see
+    // KeyRing.encode() and setEncryptionStorage(Map)
+    public static void setKeyRing(KeyRing ring) {
+        AppState.keyRing = ring;
+        AppState.identities.clear();
+    }
+
+    // Returns null if there is no key for `stage`
+    public static RequestIdentity getRequestIdentity(Stage stage) {
+        OracleKey key = AppState.getKeyRing().get(stage);
+        if (key == null) {
+            return null;
+        }
+
+        RequestIdentity identity = AppState.identities.get(stage);
+        if (identity == null || identity.getKey() != key) {
+            identity = new RequestIdentity(key);
+            AppState.identities.put(stage, identity);
+        }
+
+        return identity;
+    }
+
+    // Only falls back to the mnemonic if no ring is stored at all, a ring that can't be decrypted
+    // is never overwritten
+    private static KeyRing loadKeyRing() throws Exception {
+        String encoded = AppState.storage.getEncryptionStorageOrNull("keyRing");
+
+        if (encoded != null) {
+            KeyRing ring = KeyRing.decode(Base64.getDecoder().decode(encoded));
+
+            // Rings stored before the device id was resolved properly are tagged with device id 0
+            KeyRing tagged = ring.withDeviceId(AppState.deviceID);
+            if (tagged != ring) {
+                AppState.storeKeyRing(tagged);
+            }
+
+            return tagged;
+        }
+
+        // Wallets imported before the KeyRing existed only stored the mnemonic
+        String mnemonic = AppState.storage.getEncryptionStorageOrNull("mnemonic");
+        if (mnemonic == null || mnemonic.equals("N/A") || mnemonic.isEmpty()) {
+            return new KeyRing();
+        }
+
+        KeyRing ring = KeyRing.derive(mnemonic, AppState.deviceID);
+        AppState.storeKeyRing(ring);
+        return ring;
+    }
+
+    private static void storeKeyRing(KeyRing ring) {
+        Map<String, String> entries = new HashMap<>();
+        entries.put("keyRing", Base64.getEncoder().encodeToString(ring.encode()));
+        AppState.storage.setEncryptionStorage(entries);
+    }
 }
\ No newline at end of file
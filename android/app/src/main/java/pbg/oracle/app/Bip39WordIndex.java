@@ -0,0 +1,191 @@
+package pbg.oracle.app;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import com.bloxbean.cardano.client.crypto.bip39.MnemonicCode;
+
+// Compact index of a sorted BIP-39 wordlist.
+// All words are packed back-to-back into a single byte array, with an offset table marking
+// the word boundaries (~13 kB for the english list). Lookups are binary searches directly on
+// the packed bytes, so a keystroke costs ~11 comparisons and no allocations.
+public class Bip39WordIndex {
+    public static final int WORD_COUNT = 2048;
+
+    private static final int BITS_PER_WORD = 11;
+
+    private static Bip39WordIndex english;
+
+    private final byte[] chars;
+    private final int[] offsets;
+
+    Bip39WordIndex(List<String> words) {
+        if (words.size() != WORD_COUNT) {
+            throw new IllegalArgumentException("Expected " + WORD_COUNT + " words, got " + words.size());
+        }
+
+        int total = 0;
+        for (String word : words) {
+            total += word.length();
+        }
+
+        this.chars = new byte[total];
+        this.offsets = new int[WORD_COUNT + 1];
+
+        int pos = 0;
+        for (int i = 0; i < WORD_COUNT; i++) {
+            String word = words.get(i);
+            this.offsets[i] = pos;
+
+            for (int j = 0; j < word.length(); j++) {
+                char c = word.charAt(j);
+                if (c < 'a' || c > 'z') {
+                    throw new IllegalArgumentException("Invalid character in word " + word);
+                }
+                this.chars[pos++] = (byte) c;
+            }
+
+            // binary search relies on strict ordering
+            if (i > 0 && this.comparePrefix(i - 1, word) >= 0) {
+                throw new IllegalArgumentException("Wordlist isn't sorted at " + word);
+            }
+        }
+        this.offsets[WORD_COUNT] = pos;
+    }
+
+    // Lazily built from the wordlist bundled with cardano-client-lib
+    public static synchronized Bip39WordIndex getEnglish() {
+        if (Bip39WordIndex.english == null) {
+            Bip39WordIndex.english = new Bip39WordIndex(MnemonicCode.INSTANCE.getWordList());
+        }
+
+        return Bip39WordIndex.english;
+    }
+
+    public String getWord(int index) {
+        int start = this.offsets[index];
+        return new String(this.chars, start, this.offsets[index + 1] - start, StandardCharsets.US_ASCII);
+    }
+
+    // Returns -1 if `word` isn't in the list, input is matched case-insensitively
+    public int indexOf(CharSequence word) {
+        int i = this.lowerBound(word);
+
+        if (i < WORD_COUNT && this.comparePrefix(i, word) == 0 && this.length(i) == word.length()) {
+            return i;
+        } else {
+            return -1;
+        }
+    }
+
+    // True if at least one word starts with `prefix`
+    public boolean isPrefix(CharSequence prefix) {
+        int i = this.lowerBound(prefix);
+
+        return i < WORD_COUNT && this.comparePrefix(i, prefix) == 0;
+    }
+
+    // At most `limit` words starting with `prefix`, in list order
+    public List<String> complete(CharSequence prefix, int limit) {
+        List<String> words = new ArrayList<>();
+
+        for (int i = this.lowerBound(prefix); i < WORD_COUNT && words.size() < limit; i++) {
+            if (this.comparePrefix(i, prefix) != 0) {
+                break;
+            }
+
+            words.add(this.getWord(i));
+        }
+
+        return words;
+    }
+
+    // Checks that every word is in the list and that the trailing checksum bits match
+    // SHA-256 of the entropy. Returns false for unknown words or unsupported lengths.
+    public boolean isValidMnemonic(List<String> words) {
+        int n = words.size();
+        if (n < 12 || n > 24 || n % 3 != 0) {
+            return false;
+        }
+
+        int totalBits = n * BITS_PER_WORD;
+        int checksumBits = totalBits / 33;
+        int entropyBits = totalBits - checksumBits;
+
+        byte[] bits = new byte[(totalBits + 7) / 8];
+        int pos = 0;
+        for (String word : words) {
+            int index = this.indexOf(word);
+            if (index < 0) {
+                return false;
+            }
+
+            for (int b = BITS_PER_WORD - 1; b >= 0; b--, pos++) {
+                if (((index >> b) & 1) != 0) {
+                    bits[pos / 8] |= (byte) (0x80 >> (pos % 8));
+                }
+            }
+        }
+
+        byte[] hash;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bits, 0, entropyBits / 8);
+            hash = digest.digest();
+        } catch (Exception e) {
+            return false;
+        }
+
+        for (int i = 0; i < checksumBits; i++) {
+            int expected = (hash[i / 8] >> (7 - i % 8)) & 1;
+            int actual = (bits[(entropyBits + i) / 8] >> (7 - (entropyBits + i) % 8)) & 1;
+
+            if (expected != actual) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int length(int index) {
+        return this.offsets[index + 1] - this.offsets[index];
+    }
+
+    // First index whose word is >= `prefix` when truncated to the length of `prefix`
+    private int lowerBound(CharSequence prefix) {
+        int lo = 0;
+        int hi = WORD_COUNT;
+
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+
+            if (this.comparePrefix(mid, prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+
+    // Compares the word at `index`, truncated to the length of `prefix`, with `prefix`
+    private int comparePrefix(int index, CharSequence prefix) {
+        int start = this.offsets[index];
+        int length = this.offsets[index + 1] - start;
+        int n = Math.min(length, prefix.length());
+
+        for (int i = 0; i < n; i++) {
+            int a = this.chars[start + i];
+            int b = Character.toLowerCase(prefix.charAt(i));
+
+            if (a != b) {
+                return a - b;
+            }
+        }
+
+        return length < prefix.length() ? -1 : 0;
+    }
+}
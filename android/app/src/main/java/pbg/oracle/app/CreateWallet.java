@@ -5,9 +5,13 @@ import java.util.List;
 import java.util.Arrays;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.security.SecureRandom;
 import java.util.Set;
 import android.os.Bundle;
@@ -16,8 +20,10 @@ import android.app.ActionBar;
 import android.content.ClipboardManager;
 import android.content.Context;
 import android.content.Intent;
+import android.text.Editable;
 import android.text.InputType;
-import android.util.Base64;
+import android.text.TextWatcher;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.LinearLayout;
@@ -32,20 +38,23 @@ import android.graphics.Color;
 import android.graphics.Typeface;
 import android.graphics.drawable.GradientDrawable;
 import androidx.annotation.NonNull;
-import com.bloxbean.cardano.client.common.model.Networks;
-import com.bloxbean.cardano.client.account.Account;
-import com.bloxbean.cardano.client.crypto.bip32.HdKeyPair;
 
 public class CreateWallet extends Activity {
 
+    private static final int INVALID_WORD_COLOR = Color.RED;
+
     private List<String> mnemonic;
-    private Account account;
+    private KeyRing keyRing;
+    private Bip39WordIndex wordIndex;
+    private int defaultTextColor;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.create_wallet);
 
+        this.wordIndex = Bip39WordIndex.getEnglish();
+
         // Set up the action bar with cancel button
         ActionBar actionBar = getActionBar();
         if (actionBar != null) {
@@ -70,12 +79,26 @@ public class CreateWallet extends Activity {
         Button confirmBtn = findViewById(R.id.create_wallet_btn);
         confirmBtn.setText("Confirm");
         confirmBtn.setOnClickListener(v -> {
-            if (importWallet()) {
-                Toast.makeText(this, "Wallet imported successfully!", Toast.LENGTH_SHORT).show();
-                finish();
-            } else {
-                Toast.makeText(this, "Please enter all 24 words.", Toast.LENGTH_SHORT).show();
+            String error = readMnemonic();
+            if (error != null) {
+                Toast.makeText(this, error, Toast.LENGTH_SHORT).show();
+                return;
             }
+
+            // Deriving and encrypting the keys is too slow for the main thread
+            confirmBtn.setEnabled(false);
+            new Thread(() -> {
+                String importError = importWallet();
+                runOnUiThread(() -> {
+                    if (importError == null) {
+                        Toast.makeText(this, "Wallet imported successfully!", Toast.LENGTH_SHORT).show();
+                        finish();
+                    } else {
+                        confirmBtn.setEnabled(true);
+                        Toast.makeText(this, importError, Toast.LENGTH_SHORT).show();
+                    }
+                });
+            }).start();
         });
     }
 
@@ -133,36 +156,78 @@ public class CreateWallet extends Activity {
         labelParams.setMargins(8, 0, 0, 0); // margin to the left of label
         indexLabel.setLayoutParams(labelParams);
 
-        EditText editText = new EditText(this);
+        AutoCompleteTextView editText = new AutoCompleteTextView(this);
         editText.setInputType(InputType.TYPE_TEXT_FLAG_NO_SUGGESTIONS);
         editText.setBackground(null);
         editText.setTextSize(16);
         editText.setLayoutParams(new LinearLayout.LayoutParams(
                 0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
         editText.setSingleLine();
+        editText.setThreshold(1);
+        editText.setAdapter(new MnemonicWordAdapter(this, this.wordIndex));
+        this.defaultTextColor = editText.getCurrentTextColor();
 
         layout.addView(indexLabel);
         layout.addView(editText);
 
-        // Listen to focus change to trigger selector state
-        editText.setOnFocusChangeListener((v, hasFocus) -> layout.setSelected(hasFocus));
+        // Mark the word as soon as it can no longer become a valid word
+        editText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                updateWordState(editText, editText.hasFocus());
+            }
+        });
+
+        // Listen to focus change to trigger selector state, incomplete words are marked when leaving the field
+        editText.setOnFocusChangeListener((v, hasFocus) -> {
+            layout.setSelected(hasFocus);
+            updateWordState(editText, hasFocus);
+        });
 
         return layout;
     }
 
+    // While typing a valid prefix is accepted, otherwise the word must be in the BIP-39 list
+    private void updateWordState(EditText editText, boolean typing) {
+        String word = editText.getText().toString().trim();
+
+        boolean valid = word.isEmpty()
+                || (typing ? this.wordIndex.isPrefix(word) : this.wordIndex.indexOf(word) >= 0);
+
+        editText.setTextColor(valid ? this.defaultTextColor : INVALID_WORD_COLOR);
+    }
+
+    private EditText getSeedInput(int i) {
+        LinearLayout leftLayout = findViewById(R.id.left_layout);
+        LinearLayout rightLayout = findViewById(R.id.right_layout);
+        LinearLayout layout = (LinearLayout) (i < 12 ? leftLayout : rightLayout).getChildAt(i % 12);
+        return (EditText) layout.getChildAt(1);
+    }
+
     private void pasteMnemonic() {
         ClipboardManager clipboard = (ClipboardManager) getSystemService(Context.CLIPBOARD_SERVICE);
         if (clipboard != null && clipboard.getPrimaryClip() != null) {
             CharSequence pastedText = clipboard.getPrimaryClip().getItemAt(0).getText();
             if (pastedText != null) {
-                String[] words = pastedText.toString().split("\\s+");
+                String[] words = pastedText.toString().trim().toLowerCase(Locale.ROOT).split("\\s+");
                 if (words.length == 24) {
-                    LinearLayout leftLayout = findViewById(R.id.left_layout);
-                    LinearLayout rightLayout = findViewById(R.id.right_layout);
                     for (int i = 0; i < 24; i++) {
-                        LinearLayout layout = (LinearLayout) (i < 12 ? leftLayout : rightLayout).getChildAt(i % 12);
-                        EditText editText = (EditText) layout.getChildAt(1);
+                        EditText editText = getSeedInput(i);
                         editText.setText(words[i]);
+                        updateWordState(editText, false);
+                    }
+
+                    String error = validateMnemonic(Arrays.asList(words));
+                    if (error != null) {
+                        Toast.makeText(this, error, Toast.LENGTH_SHORT).show();
                     }
                 } else {
                     Toast.makeText(this, "Invalid seed phrase. Must be 24 words.", Toast.LENGTH_SHORT).show();
@@ -175,37 +240,63 @@ public class CreateWallet extends Activity {
         LinearLayout leftLayout = findViewById(R.id.left_layout);
         LinearLayout rightLayout = findViewById(R.id.right_layout);
         for (int i = 0; i < 24; i++) {
-            LinearLayout layout = (LinearLayout) (i < 12 ? leftLayout : rightLayout).getChildAt(i % 12);
-            EditText editText = (EditText) layout.getChildAt(1);
-            editText.setText("");
+            getSeedInput(i).setText("");
         }
         leftLayout.getChildAt(0).requestFocus();
     }
 
-    private boolean importWallet() {
+    // Returns an error message, or null if the words form a valid 24 word BIP-39 mnemonic
+    private String validateMnemonic(List<String> words) {
+        for (int i = 0; i < words.size(); i++) {
+            if (this.wordIndex.indexOf(words.get(i)) < 0) {
+                return "Word " + (i + 1) + " is not a valid seed phrase word.";
+            }
+        }
+
+        if (!this.wordIndex.isValidMnemonic(words)) {
+            return "Invalid seed phrase, checksum mismatch.";
+        }
+
+        return null;
+    }
+
+    // Reads the 24 words into `mnemonic`, returns an error message, or null if they are valid
+    private String readMnemonic() {
         List<String> words = new ArrayList<>();
-        LinearLayout leftLayout = findViewById(R.id.left_layout);
-        LinearLayout rightLayout = findViewById(R.id.right_layout);
         for (int i = 0; i < 24; i++) {
-            LinearLayout layout = (LinearLayout) (i < 12 ? leftLayout : rightLayout).getChildAt(i % 12);
-            EditText editText = (EditText) layout.getChildAt(1);
-            String word = editText.getText().toString().trim();
+            String word = getSeedInput(i).getText().toString().trim().toLowerCase(Locale.ROOT);
             if (word.isEmpty())
-                return false;
+                return "Please enter all 24 words.";
             words.add(word);
         }
 
+        // Catch typos before deriving, otherwise they silently produce a different key
+        String error = validateMnemonic(words);
+        if (error != null) {
+            return error;
+        }
+
         this.mnemonic = words;
-        this.account = new Account(Networks.testnet(), String.join(" ", mnemonic));
-        AppState.setEncryptionStorage("mnemonic", String.join(" ", mnemonic));
 
-        HdKeyPair hdKeyPair = this.account.hdKeyPair();
-        String privateKey = Base64.encodeToString(hdKeyPair.getPrivateKey().getKeyData(), Base64.DEFAULT);
-        String publicKey = Base64.encodeToString(hdKeyPair.getPublicKey().getKeyData(), Base64.DEFAULT);
+        return null;
+    }
 
-        AppState.setEncryptionStorage("privateKey", privateKey);
-        AppState.setEncryptionStorage("publicKey", publicKey);
+    // Runs off the main thread, returns an error message, or null if the wallet was imported
+    private String importWallet() {
+        try {
+            this.keyRing = KeyRing.derive(String.join(" ", mnemonic), AppState.getDeviceID());
+        } catch (Exception e) {
+            return "Error: " + e.getMessage();
+        }
 
-        return true;
+        // All secrets are encrypted with a single Keystore lookup and written in one edit
+        Map<String, String> secrets = new LinkedHashMap<>();
+        secrets.put("mnemonic", String.join(" ", mnemonic));
+        secrets.put("keyRing", Base64.getEncoder().encodeToString(this.keyRing.encode()));
+
+        AppState.setEncryptionStorage(secrets);
+        AppState.setKeyRing(this.keyRing);
+
+        return null;
     }
 }
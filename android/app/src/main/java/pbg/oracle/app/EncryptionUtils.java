@@ -4,6 +4,8 @@ import android.security.keystore.KeyGenParameterSpec;
 import android.security.keystore.KeyProperties;
 import java.security.KeyStore;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
@@ -20,7 +22,22 @@ public class EncryptionUtils {
 
     // Encrypt string → base64(iv + ciphertext)
     public static String encrypt(String plainText) throws Exception {
+        return encrypt(plainText, getSecretKey());
+    }
+
+    // Encrypt several values with a single Keystore lookup
+    public static Map<String, String> encrypt(Map<String, String> plainTexts) throws Exception {
         SecretKey secretKey = getSecretKey();
+        Map<String, String> encrypted = new LinkedHashMap<>();
+
+        for (Map.Entry<String, String> entry : plainTexts.entrySet()) {
+            encrypted.put(entry.getKey(), encrypt(entry.getValue(), secretKey));
+        }
+
+        return encrypted;
+    }
+
+    private static String encrypt(String plainText, SecretKey secretKey) throws Exception {
         Cipher cipher = Cipher.getInstance(TRANSFORMATION);
         cipher.init(Cipher.ENCRYPT_MODE, secretKey);
 
@@ -0,0 +1,56 @@
+package pbg.oracle.app;
+
+// A price feed update moving through the FeedPipeline. Each stage fills in its own field.
+// Fields aren't volatile: handing a job from one stage executor to the next already
+// establishes happens-before.
+public class FeedJob {
+    private final Stage stage;
+
+    private String response;
+    private byte[] tx;
+    private byte[] txHash;
+    private byte[] signature;
+
+    public FeedJob(Stage stage) {
+        this.stage = stage;
+    }
+
+    public Stage getStage() {
+        return this.stage;
+    }
+
+    // Raw body returned by the feed endpoint
+    public String getResponse() {
+        return this.response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    // CBOR encoded transaction
+    public byte[] getTx() {
+        return this.tx;
+    }
+
+    public void setTx(byte[] tx) {
+        this.tx = tx;
+    }
+
+    public byte[] getTxHash() {
+        return this.txHash;
+    }
+
+    public void setTxHash(byte[] txHash) {
+        this.txHash = txHash;
+    }
+
+    // CBOR encoded [publicKey, signature]
+    public byte[] getSignature() {
+        return this.signature;
+    }
+
+    public void setSignature(byte[] signature) {
+        this.signature = signature;
+    }
+}
@@ -0,0 +1,103 @@
+package pbg.oracle.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Price feed handling as a bounded, staged pipeline:
+//   fetch -> decode -> verify -> sign -> submit
+// Every stage has its own small executor, so a slow network fetch for one stage doesn't hold up
+// decoding, verification or signing of feeds that have already arrived.
+// I/O-bound stages get more threads than CPU-bound ones.
+// The app doesn't run it yet: the PWA checks the prices of a feed tx against chain data before
+// signing it (verifyPrices in pwa/src/worker/feed.ts), and nothing may be signed until that check
+// has been ported to the verify step.
+public class FeedPipeline {
+    private static final int FETCH_THREADS = 3;
+    private static final int DECODE_THREADS = 1;
+    private static final int VERIFY_THREADS = 2;
+    // Every stage signs with its own key, so signing can use one core per key
+    private static final int SIGN_THREADS = Math.max(
+        1,
+        Math.min(Stage.values().length, Runtime.getRuntime().availableProcessors())
+    );
+    private static final int SUBMIT_THREADS = 2;
+    private static final int CAPACITY = 4;
+    // Total for all stages together
+    private static final long SHUTDOWN_TIMEOUT = 2000;
+
+    private final List<PipelineStage<FeedJob>> stages;
+
+    public FeedPipeline(
+        PipelineStage.Step<FeedJob> fetch,
+        PipelineStage.Step<FeedJob> decode,
+        PipelineStage.Step<FeedJob> verify,
+        PipelineStage.Step<FeedJob> sign,
+        PipelineStage.Step<FeedJob> submit
+    ) {
+        List<PipelineStage<FeedJob>> stages = new ArrayList<>();
+        stages.add(new PipelineStage<>("fetch", FETCH_THREADS, CAPACITY, fetch));
+        stages.add(new PipelineStage<>("decode", DECODE_THREADS, CAPACITY, decode));
+        stages.add(new PipelineStage<>("verify", VERIFY_THREADS, CAPACITY, verify));
+        stages.add(new PipelineStage<>("sign", SIGN_THREADS, CAPACITY, sign));
+        stages.add(new PipelineStage<>("submit", SUBMIT_THREADS, CAPACITY, submit));
+
+        for (int i = 0; i < stages.size() - 1; i++) {
+            stages.get(i).setNext(stages.get(i + 1)::submit);
+        }
+
+        this.stages = Collections.unmodifiableList(stages);
+    }
+
+    // Blocks while the fetch stage is full
+    public void submit(FeedJob job) throws InterruptedException {
+        this.stages.get(0).submit(job);
+    }
+
+    // Returns false if the fetch stage is full, the job should then be retried on the next poll
+    public boolean offer(FeedJob job) {
+        return this.stages.get(0).offer(job);
+    }
+
+    public List<PipelineStage<FeedJob>> getStages() {
+        return this.stages;
+    }
+
+    // One line per stage: queue depth, active/total workers, mean service time, counters and the last error
+    public String getStats() {
+        StringBuilder sb = new StringBuilder();
+
+        for (PipelineStage<FeedJob> stage : this.stages) {
+            sb.append(String.format(
+                "%s: queue=%d/%d, active=%d/%d, service=%.1fms, processed=%d, dropped=%d, failed=%d",
+                stage.getName(),
+                stage.getQueueDepth(),
+                stage.getCapacity(),
+                stage.getActiveCount(),
+                stage.getThreads(),
+                stage.getMeanServiceTimeMillis(),
+                stage.getProcessedCount(),
+                stage.getDroppedCount(),
+                stage.getFailedCount()
+            ));
+
+            if (stage.getLastError() != null) {
+                sb.append(", last error: ").append(stage.getLastError());
+            }
+
+            sb.append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    // Stops the stages front to back, so work already accepted can drain into later stages.
+    // All stages share one deadline, stages that haven't drained by then are interrupted
+    public void shutdown() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+
+        for (PipelineStage<FeedJob> stage : this.stages) {
+            stage.shutdown(deadline - System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package pbg.oracle.app;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.bloxbean.cardano.client.crypto.bip32.HdKeyPair;
+import com.upokecenter.cbor.CBORObject;
+
+// Oracle keys, one per stage.
+// A ring is only built by derive, decode and withDeviceId and never changes afterwards. Together
+// with the immutable keys, stage workers can fetch and use their key concurrently without a lock.
+// The whole ring is serialized as a single CBOR blob so it can be encrypted and persisted in one go.
+public class KeyRing {
+    private final Map<Stage, OracleKey> keys = new ConcurrentHashMap<>();
+
+    public KeyRing() {
+    }
+
+    // All stage keys are children of the same external chain key, which is derived only once
+    public static KeyRing derive(String mnemonic, int deviceId) {
+        KeyRing ring = new KeyRing();
+        HdKeyPair externalChain = OracleKey.deriveExternalChain(mnemonic);
+
+        for (Stage stage : Stage.values()) {
+            ring.put(OracleKey.derive(externalChain, stage, deviceId));
+        }
+
+        return ring;
+    }
+
+    private void put(OracleKey key) {
+        this.keys.put(key.getStage(), key);
+    }
+
+    // Returns null if there is no key for `stage`
+    public OracleKey get(Stage stage) {
+        return this.keys.get(stage);
+    }
+
+    public Collection<OracleKey> getKeys() {
+        return Collections.unmodifiableCollection(this.keys.values());
+    }
+
+    // Returns this ring if all keys are already tagged with `deviceId`, otherwise a re-tagged copy
+    public KeyRing withDeviceId(int deviceId) {
+        boolean tagged = true;
+        for (OracleKey key : this.keys.values()) {
+            tagged = tagged && key.getDeviceId() == deviceId;
+        }
+
+        if (tagged) {
+            return this;
+        }
+
+        KeyRing ring = new KeyRing();
+        for (OracleKey key : this.keys.values()) {
+            ring.put(key.withDeviceId(deviceId));
+        }
+
+        return ring;
+    }
+
+    public boolean isEmpty() {
+        return this.keys.isEmpty();
+    }
+
+    // [[stage, network, deviceId, index, privateKey, publicKey], ...]
+    public byte[] encode() {
+        List<OracleKey> sorted = new ArrayList<>(this.keys.values());
+        Collections.sort(sorted, (a, b) -> a.getStage().compareTo(b.getStage()));
+
+        CBORObject list = CBORObject.NewArray();
+        for (OracleKey key : sorted) {
+            list.Add(CBORObject.NewArray()
+                .Add(key.getStage().getName())
+                .Add(key.getNetworkName())
+                .Add(key.getDeviceId())
+                .Add(key.getIndex())
+                .Add(key.getPrivateKey())
+                .Add(key.getPublicKey()));
+        }
+
+        return list.EncodeToBytes();
+    }
+
+    public static KeyRing decode(byte[] bytes) {
+        KeyRing ring = new KeyRing();
+        CBORObject list = CBORObject.DecodeFromBytes(bytes);
+
+        for (int i = 0; i < list.size(); i++) {
+            CBORObject item = list.get(i);
+
+            ring.put(new OracleKey(
+                Stage.fromName(item.get(0).AsString()),
+                item.get(1).AsString(),
+                item.get(2).AsInt32Value(),
+                item.get(3).AsInt32Value(),
+                item.get(4).GetByteString(),
+                item.get(5).GetByteString()
+            ));
+        }
+
+        return ring;
+    }
+}
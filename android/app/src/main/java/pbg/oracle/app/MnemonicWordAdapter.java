@@ -0,0 +1,63 @@
+package pbg.oracle.app;
+
+import java.util.List;
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+// Dropdown suggestions for a single seed phrase word.
+// Uses the prefix search of Bip39WordIndex instead of the linear, allocating scan of the
+// default ArrayAdapter filter.
+public class MnemonicWordAdapter extends ArrayAdapter<String> {
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final Bip39WordIndex index;
+    private final Filter filter;
+
+    public MnemonicWordAdapter(Context context, Bip39WordIndex index) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+        this.index = index;
+        this.filter = new WordFilter();
+    }
+
+    @Override
+    public Filter getFilter() {
+        return this.filter;
+    }
+
+    private class WordFilter extends Filter {
+        // called on a background thread, Bip39WordIndex is immutable so this is safe
+        @Override
+        protected FilterResults performFiltering(CharSequence prefix) {
+            FilterResults results = new FilterResults();
+
+            if (prefix != null && prefix.length() > 0) {
+                List<String> words = MnemonicWordAdapter.this.index.complete(prefix, MAX_SUGGESTIONS);
+
+                // don't show a dropdown that only repeats the word that was already typed
+                if (words.size() == 1 && words.get(0).equalsIgnoreCase(prefix.toString())) {
+                    words.clear();
+                }
+
+                results.values = words;
+                results.count = words.size();
+            }
+
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence prefix, FilterResults results) {
+            MnemonicWordAdapter.this.setNotifyOnChange(false);
+            MnemonicWordAdapter.this.clear();
+
+            if (results.count > 0) {
+                MnemonicWordAdapter.this.addAll((List<String>) results.values);
+                MnemonicWordAdapter.this.notifyDataSetChanged();
+            } else {
+                MnemonicWordAdapter.this.notifyDataSetInvalidated();
+            }
+        }
+    }
+}
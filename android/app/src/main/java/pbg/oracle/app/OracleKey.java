@@ -0,0 +1,108 @@
+package pbg.oracle.app;
+
+import java.util.Arrays;
+import com.bloxbean.cardano.client.crypto.bip32.HdKeyGenerator;
+import com.bloxbean.cardano.client.crypto.bip32.HdKeyPair;
+import com.bloxbean.cardano.client.crypto.bip39.MnemonicCode;
+import com.bloxbean.cardano.client.crypto.bip39.MnemonicException;
+
+// An HD-derived oracle identity, tagged with the stage, network and device it signs for.
+// Immutable, and signing goes through the stateless shared provider of EncryptionUtils, so a key
+// can be shared between stage workers without locking.
+public class OracleKey {
+    // CIP-1852 path of the external chain of the first account, m/1852'/1815'/0'/0, the same
+    // path Account derives its keys from
+    private static final long PURPOSE = 1852;
+    private static final long COIN_TYPE = 1815;
+    private static final long ACCOUNT = 0;
+    private static final long EXTERNAL_CHAIN = 0;
+
+    private final Stage stage;
+    private final String networkName;
+    private final int deviceId;
+    private final int index;
+    private final byte[] privateKey;
+    private final byte[] publicKey;
+
+    OracleKey(Stage stage, String networkName, int deviceId, int index, byte[] privateKey, byte[] publicKey) {
+        this.stage = stage;
+        this.networkName = networkName;
+        this.deviceId = deviceId;
+        this.index = index;
+        this.privateKey = privateKey.clone();
+        this.publicKey = publicKey.clone();
+    }
+
+    public static OracleKey derive(String mnemonic, Stage stage, int deviceId) {
+        return OracleKey.derive(OracleKey.deriveExternalChain(mnemonic), stage, deviceId);
+    }
+
+    // Turning the mnemonic into the root key (PBKDF2) is by far the slowest part of deriving a key,
+    // so KeyRing does it once and derives all stage keys from the result
+    static HdKeyPair deriveExternalChain(String mnemonic) {
+        byte[] entropy;
+        try {
+            entropy = MnemonicCode.INSTANCE.toEntropy(Arrays.asList(mnemonic.trim().split("\\s+")));
+        } catch (MnemonicException e) {
+            throw new IllegalArgumentException("invalid mnemonic", e);
+        }
+
+        HdKeyGenerator generator = new HdKeyGenerator();
+        HdKeyPair root = generator.getRootKeyPairFromEntropy(entropy);
+        HdKeyPair purpose = generator.getChildKeyPair(root, PURPOSE, true);
+        HdKeyPair coinType = generator.getChildKeyPair(purpose, COIN_TYPE, true);
+        HdKeyPair account = generator.getChildKeyPair(coinType, ACCOUNT, true);
+
+        return generator.getChildKeyPair(account, EXTERNAL_CHAIN, false);
+    }
+
+    static OracleKey derive(HdKeyPair externalChain, Stage stage, int deviceId) {
+        HdKeyPair hdKeyPair = new HdKeyGenerator().getChildKeyPair(externalChain, stage.getKeyIndex(), false);
+
+        return new OracleKey(
+            stage,
+            stage.getNetworkName(),
+            deviceId,
+            stage.getKeyIndex(),
+            hdKeyPair.getPrivateKey().getKeyData(),
+            hdKeyPair.getPublicKey().getKeyData()
+        );
+    }
+
+    // Same key, tagged with another device
+    public OracleKey withDeviceId(int deviceId) {
+        return new OracleKey(this.stage, this.networkName, deviceId, this.index, this.privateKey, this.publicKey);
+    }
+
+    public Stage getStage() {
+        return this.stage;
+    }
+
+    public String getNetworkName() {
+        return this.networkName;
+    }
+
+    public int getDeviceId() {
+        return this.deviceId;
+    }
+
+    public int getIndex() {
+        return this.index;
+    }
+
+    public byte[] getPrivateKey() {
+        return this.privateKey.clone();
+    }
+
+    public byte[] getPublicKey() {
+        return this.publicKey.clone();
+    }
+
+    public byte[] sign(byte[] data) throws Exception {
+        return EncryptionUtils.getSignature(data, this.privateKey);
+    }
+
+    public boolean verify(byte[] signature, byte[] data) throws Exception {
+        return EncryptionUtils.getVerification(signature, data, this.publicKey);
+    }
+}
@@ -0,0 +1,165 @@
+package pbg.oracle.app;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A single stage of a FeedPipeline: a small fixed thread pool in front of a bounded queue.
+// submit() blocks while the stage is full, and a worker keeps its slot until the next stage has
+// accepted its output, so a slow stage pushes back on the stages before it instead of letting
+// work pile up in memory.
+public class PipelineStage<T> {
+    // Returning null drops the item, e.g. when there is nothing to sign
+    public interface Step<T> {
+        T apply(T item) throws Exception;
+    }
+
+    public interface Sink<T> {
+        void accept(T item) throws InterruptedException;
+    }
+
+    private final String name;
+    private final int capacity;
+    private final Step<T> step;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private volatile Sink<T> next;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private volatile String lastError;
+
+    PipelineStage(String name, int threads, int capacity, Step<T> step) {
+        this.name = name;
+        this.capacity = capacity;
+        this.step = step;
+        this.slots = new Semaphore(threads + capacity);
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "pipeline-" + name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    void setNext(Sink<T> next) {
+        this.next = next;
+    }
+
+    // Blocks until the stage has room for `item`
+    public void submit(T item) throws InterruptedException {
+        this.slots.acquire();
+        this.execute(item);
+    }
+
+    // Returns false instead of blocking when the stage is full
+    public boolean offer(T item) {
+        if (!this.slots.tryAcquire()) {
+            return false;
+        }
+
+        this.execute(item);
+        return true;
+    }
+
+    private void execute(T item) {
+        try {
+            this.executor.execute(() -> this.run(item));
+        } catch (RejectedExecutionException e) {
+            this.slots.release();
+            throw e;
+        }
+    }
+
+    private void run(T item) {
+        try {
+            T result;
+            long start = System.nanoTime();
+            try {
+                result = this.step.apply(item);
+            } finally {
+                this.busyNanos.addAndGet(System.nanoTime() - start);
+            }
+
+            this.processed.incrementAndGet();
+
+            if (result == null) {
+                this.dropped.incrementAndGet();
+            } else if (this.next != null) {
+                this.next.accept(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            this.failed.incrementAndGet();
+            this.lastError = e.getMessage();
+        } finally {
+            this.slots.release();
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public int getThreads() {
+        return this.executor.getCorePoolSize();
+    }
+
+    // Items waiting for a worker
+    public int getQueueDepth() {
+        return this.executor.getQueue().size();
+    }
+
+    // Items being worked on, including those blocked on handing off to the next stage
+    public int getActiveCount() {
+        return this.executor.getActiveCount();
+    }
+
+    public long getProcessedCount() {
+        return this.processed.get();
+    }
+
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    public long getFailedCount() {
+        return this.failed.get();
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    // Mean time spent in the step itself, excluding queueing and handoff
+    public double getMeanServiceTimeMillis() {
+        long n = this.processed.get() + this.failed.get();
+
+        return n == 0 ? 0.0 : this.busyNanos.get() / (n * 1e6);
+    }
+
+    // Lets queued items finish for at most `timeoutMillis`, then interrupts whatever is still running
+    void shutdown(long timeoutMillis) throws InterruptedException {
+        this.executor.shutdown();
+
+        if (!this.executor.awaitTermination(Math.max(timeoutMillis, 0), TimeUnit.MILLISECONDS)) {
+            this.executor.shutdownNow();
+        }
+    }
+}
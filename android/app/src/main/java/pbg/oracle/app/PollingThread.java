@@ -8,10 +8,6 @@ import java.net.URL;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import javax.net.ssl.HttpsURLConnection;
-import android.util.Base64;
-import com.upokecenter.cbor.CBORObject;
-import java.security.SecureRandom;
-import java.time.Instant;
 
 public class PollingThread extends Thread {
 	private PollingService service;
@@ -45,12 +41,10 @@ public class PollingThread extends Thread {
 			URL url = new URL(urlToRead);
 			HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
 
-			byte[] privateKey = Base64.decode(AppState.getEncryptionStorage("privateKey"), Base64.DEFAULT);
+			RequestIdentity identity = AppState.getRequestIdentity(Stage.MAINNET);
 
-			if (privateKey != null && privateKey.length > 0) {
-				// Generate the signature using the private key
-				// String signature = Base64.encodeToString(EncryptionUtils.getSignature("deviceId".getBytes(), privateKey), Base64.NO_WRAP);
-				String authToken = createAuthToken(privateKey, AppState.getDeviceID());
+			if (identity != null) {
+				String authToken = identity.createAuthToken();
 
 				conn.setRequestProperty("Authorization", authToken);
 				conn.setRequestMethod("GET");
@@ -84,38 +78,4 @@ public class PollingThread extends Thread {
 
 		return result.toString();
 	}
-
-	private static String createAuthToken(byte[] privateKey, int deviceId) {
-        try {
-            // Create nonce (timestamp + random)
-            long timestamp = Instant.now().toEpochMilli();
-            long random = new SecureRandom().nextInt(1000);
-            long nonce = timestamp + random;
-
-            CBORObject message = CBORObject.NewArray()
-                .Add(nonce)
-                .Add(deviceId);
-
-            byte[] messageBytes = message.EncodeToBytes();
-            byte[] signature = EncryptionUtils.getSignature(messageBytes, privateKey);
-
-            CBORObject payload = CBORObject.NewArray()
-                .Add(messageBytes)
-                .Add(signature);
-
-            // Convert to hex string
-            return bytesToHex(payload.EncodeToBytes());
-        } catch (Exception e) {
-            return "";
-        }
-    }
-
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package pbg.oracle.app;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import com.upokecenter.cbor.CBORObject;
+
+// Creates the Authorization tokens for one oracle key and the device it is tagged with, in the
+// same format as the PWA (createAuthToken in pwa/src/worker/Secrets.ts):
+//   payload   = [bytes(message), [bytes(publicKey), bytes(signature)]]
+//   message   = [nonce, deviceId]
+// Only the nonce and the signature change between requests. The CBOR encoding of the device id
+// and the public key binding are computed once, so a request only encodes the nonce and signs.
+public class RequestIdentity {
+    private static final SecureRandom random = new SecureRandom();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_ARRAY = 4;
+
+    private final OracleKey key;
+    private final int deviceId;
+
+    // CBOR encoded device id, the constant tail of every message
+    private final byte[] deviceIdCbor;
+
+    // CBOR array header followed by the public key bytestring, the constant head of every signature
+    private final byte[] signaturePrefix;
+
+    public RequestIdentity(OracleKey key) {
+        this.key = key;
+        this.deviceId = key.getDeviceId();
+        this.deviceIdCbor = CBORObject.FromObject(this.deviceId).EncodeToBytes();
+
+        byte[] publicKey = CBORObject.FromObject(key.getPublicKey()).EncodeToBytes();
+        this.signaturePrefix = new byte[1 + publicKey.length];
+        this.signaturePrefix[0] = (byte) ((MAJOR_ARRAY << 5) | 2);
+        System.arraycopy(publicKey, 0, this.signaturePrefix, 1, publicKey.length);
+    }
+
+    // ANDROID_ID is a 64-bit hex string, folded into a positive int as the API expects a small number.
+    // Other ids (e.g. Build.SERIAL) fall back to their hash.
+    public static int deviceIdFromAndroidId(String androidId) {
+        long value;
+        try {
+            value = Long.parseUnsignedLong(androidId, 16);
+        } catch (NumberFormatException e) {
+            value = androidId.hashCode();
+        }
+
+        int id = (int) (value ^ (value >>> 32)) & 0x7fffffff;
+
+        // 0 is the default of the PWA, which would make this device indistinguishable
+        return id == 0 ? 1 : id;
+    }
+
+    public OracleKey getKey() {
+        return this.key;
+    }
+
+    public int getDeviceId() {
+        return this.deviceId;
+    }
+
+    // Hex encoded payload, for the Authorization header
+    public String createAuthToken() throws Exception {
+        // Create nonce (timestamp + random)
+        long nonce = Instant.now().toEpochMilli() + random.nextInt(1000);
+
+        return bytesToHex(this.createPayload(nonce));
+    }
+
+    byte[] createPayload(long nonce) throws Exception {
+        // [nonce, deviceId]
+        byte[] message = new byte[1 + headLength(nonce) + this.deviceIdCbor.length];
+        int pos = writeHead(message, 0, MAJOR_ARRAY, 2);
+        pos = writeHead(message, pos, MAJOR_UNSIGNED, nonce);
+        System.arraycopy(this.deviceIdCbor, 0, message, pos, this.deviceIdCbor.length);
+
+        byte[] signature = this.key.sign(message);
+
+        // [bytes(message), [bytes(publicKey), bytes(signature)]]
+        byte[] payload = new byte[
+            1
+            + headLength(message.length) + message.length
+            + this.signaturePrefix.length
+            + headLength(signature.length) + signature.length
+        ];
+        pos = writeHead(payload, 0, MAJOR_ARRAY, 2);
+        pos = writeHead(payload, pos, MAJOR_BYTES, message.length);
+        System.arraycopy(message, 0, payload, pos, message.length);
+        pos += message.length;
+        System.arraycopy(this.signaturePrefix, 0, payload, pos, this.signaturePrefix.length);
+        pos += this.signaturePrefix.length;
+        pos = writeHead(payload, pos, MAJOR_BYTES, signature.length);
+        System.arraycopy(signature, 0, payload, pos, signature.length);
+
+        return payload;
+    }
+
+    // Length of a CBOR head with argument `value`
+    private static int headLength(long value) {
+        if (value < 24) {
+            return 1;
+        } else if (value < 0x100) {
+            return 2;
+        } else if (value < 0x10000) {
+            return 3;
+        } else if (value < 0x100000000L) {
+            return 5;
+        } else {
+            return 9;
+        }
+    }
+
+    // Writes a CBOR head at `pos`, returns the position right after it
+    private static int writeHead(byte[] dst, int pos, int majorType, long value) {
+        int n = headLength(value);
+        int major = majorType << 5;
+
+        if (n == 1) {
+            dst[pos] = (byte) (major | value);
+            return pos + 1;
+        }
+
+        dst[pos] = (byte) (major | (n == 2 ? 24 : n == 3 ? 25 : n == 5 ? 26 : 27));
+        for (int i = n - 1; i > 0; i--) {
+            dst[pos + i] = (byte) value;
+            value >>>= 8;
+        }
+
+        return pos + n;
+    }
+
+    private static String bytesToHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,56 @@
+package pbg.oracle.app;
+
+import com.bloxbean.cardano.client.common.model.Network;
+import com.bloxbean.cardano.client.common.model.Networks;
+
+// Mirrors the stages of the PWA (pwa/src/worker/stages.ts)
+public enum Stage {
+    MAINNET("Mainnet", "https://api.oracle.token.pbg.io", "mainnet", 0),
+    PREPROD("Preprod", "https://api.oracle.preprod.pbgtoken.io", "preprod", 1),
+    BETA("Beta", "https://api.oracle.beta.pbgtoken.io", "mainnet", 2);
+
+    private final String name;
+    private final String baseUrl;
+    private final String networkName;
+
+    // HD address index of the oracle key used for this stage.
+    // Mainnet uses index 0, which is the key derived before there were per-stage keys
+    private final int keyIndex;
+
+    Stage(String name, String baseUrl, String networkName, int keyIndex) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.networkName = networkName;
+        this.keyIndex = keyIndex;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getBaseUrl() {
+        return this.baseUrl;
+    }
+
+    public String getNetworkName() {
+        return this.networkName;
+    }
+
+    public Network getNetwork() {
+        return this.networkName.equals("preprod") ? Networks.preprod() : Networks.mainnet();
+    }
+
+    public int getKeyIndex() {
+        return this.keyIndex;
+    }
+
+    public static Stage fromName(String name) {
+        for (Stage stage : Stage.values()) {
+            if (stage.name.equals(name)) {
+                return stage;
+            }
+        }
+
+        throw new IllegalArgumentException("unrecognized stage '" + name + "'");
+    }
+}
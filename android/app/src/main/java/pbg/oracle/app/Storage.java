@@ -2,6 +2,7 @@ package pbg.oracle.app;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import java.util.Map;
 
 public class Storage {
     private String DB_NAME = "MyPrefs";
@@ -36,6 +37,19 @@ public class Storage {
         }
     }
 
+    // Encrypts all entries with one Keystore lookup, and writes them in a single edit
+    public void setEncryptionStorage(Map<String, String> entries) {
+        try {
+            Map<String, String> encrypted = EncryptionUtils.encrypt(entries);
+            SharedPreferences.Editor editor = this.getSharedPreferences().edit();
+            for (Map.Entry<String, String> entry : encrypted.entrySet()) {
+                editor.putString(entry.getKey() + "_encryption", entry.getValue());
+            }
+            editor.apply();
+        } catch (Exception e) {
+        }
+    }
+
     public String getEncryptionStorage(String key) {
         try {
             String encryptedKeyBase64 = this.getSharedPreferences().getString(key + "_encryption", "");
@@ -45,4 +59,14 @@ public class Storage {
         }
     }
 
+    // Returns null if nothing is stored under `key`, and throws if the value can't be decrypted
+    public String getEncryptionStorageOrNull(String key) throws Exception {
+        String encryptedKeyBase64 = this.getSharedPreferences().getString(key + "_encryption", null);
+        if (encryptedKeyBase64 == null) {
+            return null;
+        }
+
+        return EncryptionUtils.decrypt(encryptedKeyBase64);
+    }
+
 }
@@ -0,0 +1,130 @@
+package pbg.oracle.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class Bip39WordIndexTest {
+    // Official BIP-39 english test vectors (entropy 00.., 7f.., 80.., ff..)
+    private static final String[] VALID_12 = {
+        "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon about",
+        "legal winner thank year wave sausage worth useful legal winner thank yellow",
+        "letter advice cage absurd amount doctor acoustic avoid letter advice cage above",
+        "zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo wrong"
+    };
+
+    private static final String[] VALID_24 = {
+        "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon "
+            + "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon art",
+        "legal winner thank year wave sausage worth useful legal winner thank year "
+            + "wave sausage worth useful legal winner thank year wave sausage worth title",
+        "letter advice cage absurd amount doctor acoustic avoid letter advice cage absurd "
+            + "amount doctor acoustic avoid letter advice cage absurd amount doctor acoustic bless",
+        "zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo "
+            + "zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo vote"
+    };
+
+    private static List<String> words(String phrase) {
+        return new ArrayList<>(Arrays.asList(phrase.split(" ")));
+    }
+
+    @Test
+    public void acceptsOfficialVectors() {
+        Bip39WordIndex index = Bip39WordIndex.getEnglish();
+
+        for (String phrase : VALID_12) {
+            assertTrue(phrase, index.isValidMnemonic(words(phrase)));
+        }
+
+        for (String phrase : VALID_24) {
+            assertTrue(phrase, index.isValidMnemonic(words(phrase)));
+        }
+    }
+
+    @Test
+    public void rejectsBadChecksum() {
+        Bip39WordIndex index = Bip39WordIndex.getEnglish();
+
+        // only the checksum bits of the last word differ
+        List<String> words12 = words(VALID_12[3]);
+        words12.set(11, "zoo");
+        assertFalse(index.isValidMnemonic(words12));
+
+        List<String> about = words(VALID_12[0]);
+        about.set(11, "abandon");
+        assertFalse(index.isValidMnemonic(about));
+
+        List<String> words24 = words(VALID_24[0]);
+        words24.set(23, "about");
+        assertFalse(index.isValidMnemonic(words24));
+
+        // swapping two words keeps all words valid, but changes the entropy under the checksum
+        List<String> swapped = words(VALID_24[3]);
+        swapped.set(0, "vote");
+        swapped.set(23, "zoo");
+        assertFalse(index.isValidMnemonic(swapped));
+    }
+
+    @Test
+    public void rejectsUnknownWord() {
+        Bip39WordIndex index = Bip39WordIndex.getEnglish();
+
+        List<String> words = words(VALID_24[0]);
+        words.set(5, "abandonn");
+        assertFalse(index.isValidMnemonic(words));
+    }
+
+    @Test
+    public void rejectsInvalidLength() {
+        Bip39WordIndex index = Bip39WordIndex.getEnglish();
+
+        List<String> words11 = words(VALID_12[0]);
+        words11.remove(0);
+        assertFalse(index.isValidMnemonic(words11));
+
+        List<String> words25 = words(VALID_24[0]);
+        words25.add("abandon");
+        assertFalse(index.isValidMnemonic(words25));
+
+        assertFalse(index.isValidMnemonic(new ArrayList<String>()));
+    }
+
+    @Test
+    public void lookupsAtBoundaries() {
+        Bip39WordIndex index = Bip39WordIndex.getEnglish();
+
+        assertEquals(0, index.indexOf("abandon"));
+        assertEquals(Bip39WordIndex.WORD_COUNT - 1, index.indexOf("zoo"));
+        assertEquals(index.indexOf("zoo"), index.indexOf("ZOO"));
+        assertEquals("zoo", index.getWord(Bip39WordIndex.WORD_COUNT - 1));
+
+        assertTrue(index.indexOf("act") >= 0);
+        assertEquals(index.indexOf("act") + 1, index.indexOf("action"));
+        assertEquals(-1, index.indexOf("acti"));
+        assertEquals(-1, index.indexOf("zooo"));
+        assertEquals(-1, index.indexOf(""));
+
+        assertTrue(index.isPrefix("act"));
+        assertTrue(index.isPrefix("acti"));
+        assertTrue(index.isPrefix("zoo"));
+        assertFalse(index.isPrefix("zooo"));
+        assertFalse(index.isPrefix("zz"));
+        assertFalse(index.isPrefix("actx"));
+    }
+
+    @Test
+    public void completesPrefixes() {
+        Bip39WordIndex index = Bip39WordIndex.getEnglish();
+
+        assertEquals(Arrays.asList("act", "action", "actor", "actress", "actual"), index.complete("act", 8));
+        assertEquals(Arrays.asList("act", "action"), index.complete("act", 2));
+        assertEquals(Arrays.asList("action"), index.complete("acti", 8));
+        assertEquals(Arrays.asList("zone", "zoo"), index.complete("zo", 8));
+        assertEquals(Arrays.asList("zoo"), index.complete("zoo", 8));
+        assertTrue(index.complete("zz", 8).isEmpty());
+        assertEquals(8, index.complete("a", 8).size());
+    }
+}
@@ -0,0 +1,234 @@
+package pbg.oracle.app;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FeedPipelineTest {
+    private static final int JOBS = 24;
+
+    private static final String MNEMONIC =
+        "abandon abandon abandon abandon abandon abandon abandon abandon "
+        + "abandon abandon abandon abandon abandon abandon abandon abandon "
+        + "abandon abandon abandon abandon abandon abandon abandon art";
+
+    // Simulated service times, the network stages dominate
+    private static final long FETCH_MS = 60;
+    private static final long DECODE_MS = 5;
+    private static final long VERIFY_MS = 10;
+    private static final long SIGN_MS = 5;
+    private static final long SUBMIT_MS = 30;
+
+    private static PipelineStage.Step<FeedJob> sleeping(long millis) {
+        return job -> {
+            Thread.sleep(millis);
+            return job;
+        };
+    }
+
+    @Test
+    public void throughputAtLeastDoublesWithSlowNetwork() throws Exception {
+        PipelineStage.Step<FeedJob> fetch = sleeping(FETCH_MS);
+        PipelineStage.Step<FeedJob> decode = sleeping(DECODE_MS);
+        PipelineStage.Step<FeedJob> verify = sleeping(VERIFY_MS);
+        PipelineStage.Step<FeedJob> sign = sleeping(SIGN_MS);
+        PipelineStage.Step<FeedJob> submit = sleeping(SUBMIT_MS);
+
+        // baseline: everything one after another on a single thread
+        long start = System.nanoTime();
+        for (int i = 0; i < JOBS; i++) {
+            FeedJob job = new FeedJob(Stage.values()[i % Stage.values().length]);
+            submit.apply(sign.apply(verify.apply(decode.apply(fetch.apply(job)))));
+        }
+        long sequential = System.nanoTime() - start;
+
+        CountDownLatch done = new CountDownLatch(JOBS);
+        FeedPipeline pipeline = new FeedPipeline(fetch, decode, verify, sign, job -> {
+            submit.apply(job);
+            done.countDown();
+            return job;
+        });
+
+        start = System.nanoTime();
+        for (int i = 0; i < JOBS; i++) {
+            pipeline.submit(new FeedJob(Stage.values()[i % Stage.values().length]));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        long pipelined = System.nanoTime() - start;
+
+        pipeline.shutdown();
+
+        assertTrue(
+            "sequential " + sequential / 1000000 + "ms, pipelined " + pipelined / 1000000 + "ms",
+            sequential >= 2 * pipelined
+        );
+
+        for (PipelineStage<FeedJob> stage : pipeline.getStages()) {
+            assertEquals(JOBS, stage.getProcessedCount());
+            assertTrue(stage.getMeanServiceTimeMillis() > 0);
+        }
+    }
+
+    @Test
+    public void slowStageBoundsQueues() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage.Step<FeedJob> pass = job -> job;
+
+        FeedPipeline pipeline = new FeedPipeline(pass, pass, pass, pass, job -> {
+            release.await();
+            return job;
+        });
+
+        // keep offering until backpressure has reached the front of the pipeline
+        int accepted = 0;
+        int rejected = 0;
+        while (rejected < 20) {
+            if (pipeline.offer(new FeedJob(Stage.MAINNET))) {
+                accepted++;
+                rejected = 0;
+            } else {
+                rejected++;
+            }
+
+            Thread.sleep(5);
+        }
+
+        int bound = 0;
+        for (PipelineStage<FeedJob> stage : pipeline.getStages()) {
+            assertTrue(stage.getQueueDepth() <= stage.getCapacity());
+            bound += stage.getCapacity() + stage.getActiveCount();
+        }
+        assertTrue(accepted <= bound);
+
+        release.countDown();
+        pipeline.shutdown();
+
+        assertEquals(accepted, pipeline.getStages().get(4).getProcessedCount());
+    }
+
+    @Test
+    public void droppedAndFailedJobsAreCounted() throws Exception {
+        CountDownLatch done = new CountDownLatch(3);
+        PipelineStage.Step<FeedJob> pass = job -> job;
+
+        FeedPipeline pipeline = new FeedPipeline(
+            pass,
+            pass,
+            job -> {
+                try {
+                    if (job.getStage() == Stage.PREPROD) {
+                        return null;
+                    } else if (job.getStage() == Stage.BETA) {
+                        throw new IllegalStateException("price mismatch");
+                    } else {
+                        return job;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            },
+            pass,
+            pass
+        );
+
+        pipeline.submit(new FeedJob(Stage.MAINNET));
+        pipeline.submit(new FeedJob(Stage.PREPROD));
+        pipeline.submit(new FeedJob(Stage.BETA));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        pipeline.shutdown();
+
+        PipelineStage<FeedJob> verify = pipeline.getStages().get(2);
+        assertEquals(2, verify.getProcessedCount());
+        assertEquals(1, verify.getDroppedCount());
+        assertEquals(1, verify.getFailedCount());
+        assertEquals("price mismatch", verify.getLastError());
+        assertTrue(pipeline.getStats().contains("last error: price mismatch"));
+        assertEquals(1, pipeline.getStages().get(4).getProcessedCount());
+    }
+
+    @Test
+    public void shutdownIsBoundedWhenAStageHangs() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        PipelineStage.Step<FeedJob> pass = job -> job;
+
+        FeedPipeline pipeline = new FeedPipeline(pass, pass, pass, pass, job -> {
+            never.await();
+            return job;
+        });
+
+        for (int i = 0; i < 3; i++) {
+            pipeline.submit(new FeedJob(Stage.MAINNET));
+        }
+        Thread.sleep(100);
+
+        long start = System.currentTimeMillis();
+        pipeline.shutdown();
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue("shutdown took " + elapsed + "ms", elapsed < 3000);
+    }
+
+    @Test
+    public void stageKeysSignConcurrently() throws Exception {
+        KeyRing ring = KeyRing.derive(MNEMONIC, 7);
+        PipelineStage.Step<FeedJob> pass = job -> job;
+        Random random = new Random(1);
+
+        int signers = Math.min(Stage.values().length, Runtime.getRuntime().availableProcessors());
+        int jobs = signers * 8;
+
+        // a round of jobs only gets past the barrier if all sign workers hold one at the same time
+        CyclicBarrier together = new CyclicBarrier(signers);
+        Queue<FeedJob> signed = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(jobs);
+
+        FeedPipeline pipeline = new FeedPipeline(
+            pass,
+            pass,
+            pass,
+            job -> {
+                together.await(5, TimeUnit.SECONDS);
+                job.setSignature(ring.get(job.getStage()).sign(job.getTxHash()));
+                return job;
+            },
+            job -> {
+                signed.add(job);
+                done.countDown();
+                return job;
+            }
+        );
+
+        assertEquals(signers, pipeline.getStages().get(3).getThreads());
+
+        for (int i = 0; i < jobs; i++) {
+            byte[] txHash = new byte[32];
+            random.nextBytes(txHash);
+
+            FeedJob job = new FeedJob(Stage.values()[i % Stage.values().length]);
+            job.setTxHash(txHash);
+            pipeline.submit(job);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pipeline.shutdown();
+
+        assertEquals(0, pipeline.getStages().get(3).getFailedCount());
+        assertEquals(jobs, signed.size());
+
+        for (FeedJob job : signed) {
+            for (Stage stage : Stage.values()) {
+                assertEquals(
+                    stage == job.getStage(),
+                    ring.get(stage).verify(job.getSignature(), job.getTxHash())
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package pbg.oracle.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import com.bloxbean.cardano.client.account.Account;
+import com.bloxbean.cardano.client.crypto.api.impl.EdDSASigningProvider;
+import com.bloxbean.cardano.client.common.model.Networks;
+import com.bloxbean.cardano.client.crypto.bip32.HdKeyPair;
+import com.upokecenter.cbor.CBORObject;
+
+import static org.junit.Assert.*;
+
+public class KeyRingTest {
+    private static final String MNEMONIC =
+        "abandon abandon abandon abandon abandon abandon abandon abandon "
+        + "abandon abandon abandon abandon abandon abandon abandon abandon "
+        + "abandon abandon abandon abandon abandon abandon abandon art";
+
+    private static final int THREADS_PER_KEY = 4;
+    private static final int MESSAGES = 50;
+
+    private static byte[] message(int i) throws Exception {
+        return ("price feed " + i).getBytes("UTF-8");
+    }
+
+    @Test
+    public void mainnetKeyMatchesLegacyKey() throws Exception {
+        // the single key that CreateWallet stored before there were per-stage keys
+        HdKeyPair legacy = new Account(Networks.testnet(), MNEMONIC).hdKeyPair();
+
+        OracleKey key = KeyRing.derive(MNEMONIC, 7).get(Stage.MAINNET);
+
+        assertArrayEquals(legacy.getPrivateKey().getKeyData(), key.getPrivateKey());
+        assertArrayEquals(legacy.getPublicKey().getKeyData(), key.getPublicKey());
+    }
+
+    @Test
+    public void stageKeysMatchAccountKeys() throws Exception {
+        // the ring derives the root key only once, the keys must still match a full derivation
+        KeyRing ring = KeyRing.derive(MNEMONIC, 7);
+
+        for (Stage stage : Stage.values()) {
+            HdKeyPair expected = new Account(stage.getNetwork(), MNEMONIC, stage.getKeyIndex()).hdKeyPair();
+
+            assertArrayEquals(expected.getPrivateKey().getKeyData(), ring.get(stage).getPrivateKey());
+            assertArrayEquals(expected.getPublicKey().getKeyData(), ring.get(stage).getPublicKey());
+            assertArrayEquals(
+                expected.getPublicKey().getKeyData(),
+                OracleKey.derive(MNEMONIC, stage, 7).getPublicKey()
+            );
+        }
+    }
+
+    @Test
+    public void stagesHaveDistinctKeys() {
+        KeyRing ring = KeyRing.derive(MNEMONIC, 7);
+
+        for (Stage a : Stage.values()) {
+            for (Stage b : Stage.values()) {
+                if (a != b) {
+                    assertFalse(Arrays.equals(ring.get(a).getPublicKey(), ring.get(b).getPublicKey()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void encodeDecodeRoundTrip() throws Exception {
+        KeyRing ring = KeyRing.derive(MNEMONIC, 7);
+        KeyRing decoded = KeyRing.decode(ring.encode());
+
+        assertEquals(Stage.values().length, decoded.getKeys().size());
+
+        for (Stage stage : Stage.values()) {
+            OracleKey expected = ring.get(stage);
+            OracleKey actual = decoded.get(stage);
+
+            assertEquals(stage, actual.getStage());
+            assertEquals(expected.getNetworkName(), actual.getNetworkName());
+            assertEquals(7, actual.getDeviceId());
+            assertEquals(stage.getKeyIndex(), actual.getIndex());
+            assertArrayEquals(expected.getPrivateKey(), actual.getPrivateKey());
+            assertArrayEquals(expected.getPublicKey(), actual.getPublicKey());
+
+            byte[] message = "message".getBytes("UTF-8");
+            assertTrue(expected.verify(actual.sign(message), message));
+        }
+
+        assertArrayEquals(ring.encode(), decoded.encode());
+    }
+
+    @Test
+    public void withDeviceIdRetagsAllKeys() throws Exception {
+        KeyRing legacy = KeyRing.derive(MNEMONIC, 0);
+
+        assertSame(legacy, legacy.withDeviceId(0));
+
+        KeyRing ring = legacy.withDeviceId(42);
+        assertNotSame(legacy, ring);
+
+        // the re-tagged ring is what gets persisted, so the tag has to survive encoding
+        KeyRing decoded = KeyRing.decode(ring.encode());
+
+        for (Stage stage : Stage.values()) {
+            assertEquals(0, legacy.get(stage).getDeviceId());
+            assertEquals(42, decoded.get(stage).getDeviceId());
+            assertArrayEquals(legacy.get(stage).getPrivateKey(), decoded.get(stage).getPrivateKey());
+            assertArrayEquals(legacy.get(stage).getPublicKey(), decoded.get(stage).getPublicKey());
+        }
+
+        assertSame(decoded, decoded.withDeviceId(42));
+    }
+
+    @Test
+    public void keysSignConcurrently() throws Exception {
+        KeyRing ring = KeyRing.derive(MNEMONIC, 7);
+
+        // Ed25519 signatures are deterministic, so signing one after another gives the reference
+        Map<Stage, byte[][]> expected = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            byte[][] signatures = new byte[MESSAGES][];
+            for (int i = 0; i < MESSAGES; i++) {
+                signatures[i] = ring.get(stage).sign(message(i));
+            }
+            expected.put(stage, signatures);
+        }
+
+        // all keys share the signing provider of EncryptionUtils, the workers all start together
+        // to make interleaved use of it as likely as possible
+        int threads = THREADS_PER_KEY * Stage.values().length;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Stage stage = Stage.values()[t % Stage.values().length];
+            OracleKey key = ring.get(stage);
+
+            results.add(executor.submit(() -> {
+                // checked with a provider of its own, so a broken shared one can't hide its errors
+                EdDSASigningProvider verifier = new EdDSASigningProvider();
+                start.await(5, TimeUnit.SECONDS);
+
+                for (int i = 0; i < MESSAGES; i++) {
+                    byte[] message = message(i);
+                    byte[] signature = key.sign(message);
+
+                    assertArrayEquals(expected.get(stage)[i], signature);
+                    assertTrue(key.verify(signature, message));
+
+                    for (OracleKey other : ring.getKeys()) {
+                        assertEquals(
+                            other == key,
+                            verifier.verify(signature, message, other.getPublicKey())
+                        );
+                    }
+                }
+
+                return MESSAGES;
+            }));
+        }
+
+        int signed = 0;
+        for (Future<Integer> result : results) {
+            signed += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * MESSAGES, signed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromNameRejectsUnknownStage() {
+        Stage.fromName("Testnet");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeRejectsUnknownStage() {
+        byte[] bytes = CBORObject.NewArray()
+            .Add(CBORObject.NewArray()
+                .Add("Testnet")
+                .Add("testnet")
+                .Add(7)
+                .Add(0)
+                .Add(new byte[64])
+                .Add(new byte[32]))
+            .EncodeToBytes();
+
+        KeyRing.decode(bytes);
+    }
+}
@@ -0,0 +1,122 @@
+package pbg.oracle.app;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import com.bloxbean.cardano.client.crypto.api.impl.EdDSASigningProvider;
+import com.bloxbean.cardano.client.util.HexUtil;
+import com.upokecenter.cbor.CBORObject;
+
+import static org.junit.Assert.*;
+
+public class RequestIdentityTest {
+    private static final String MNEMONIC =
+        "abandon abandon abandon abandon abandon abandon abandon abandon "
+        + "abandon abandon abandon abandon abandon abandon abandon abandon "
+        + "abandon abandon abandon abandon abandon abandon abandon art";
+
+    // Stands in for the oracle API: only accepts tokens signed by a registered key, for the
+    // device id that key was registered with
+    private static class Server {
+        private final Map<String, Integer> devices = new HashMap<>();
+
+        void register(OracleKey key, int deviceId) {
+            this.devices.put(HexUtil.encodeHexString(key.getPublicKey()), deviceId);
+        }
+
+        boolean accept(String token) throws Exception {
+            CBORObject payload = CBORObject.DecodeFromBytes(HexUtil.decodeHexString(token));
+            byte[] message = payload.get(0).GetByteString();
+            byte[] publicKey = payload.get(1).get(0).GetByteString();
+            byte[] signature = payload.get(1).get(1).GetByteString();
+
+            Integer deviceId = this.devices.get(HexUtil.encodeHexString(publicKey));
+            if (deviceId == null) {
+                return false;
+            }
+
+            if (CBORObject.DecodeFromBytes(message).get(1).AsInt32Value() != deviceId) {
+                return false;
+            }
+
+            return new EdDSASigningProvider().verify(signature, message, publicKey);
+        }
+    }
+
+    @Test
+    public void serverAcceptsRegisteredDevice() throws Exception {
+        OracleKey key = OracleKey.derive(MNEMONIC, Stage.MAINNET, 42);
+        Server server = new Server();
+        server.register(key, 42);
+
+        RequestIdentity identity = new RequestIdentity(key);
+
+        assertEquals(42, identity.getDeviceId());
+        assertTrue(server.accept(identity.createAuthToken()));
+        assertTrue(server.accept(identity.createAuthToken()));
+    }
+
+    @Test
+    public void serverRejectsMismatchedDeviceId() throws Exception {
+        OracleKey key = OracleKey.derive(MNEMONIC, Stage.MAINNET, 42);
+        Server server = new Server();
+        server.register(key, 42);
+
+        assertFalse(server.accept(new RequestIdentity(key.withDeviceId(43)).createAuthToken()));
+
+        // device id 0 is what every token carried before it was resolved properly
+        assertFalse(server.accept(new RequestIdentity(key.withDeviceId(0)).createAuthToken()));
+    }
+
+    @Test
+    public void serverAcceptsRetaggedLegacyRing() throws Exception {
+        // rings stored before the fix were derived while the device id was always 0
+        KeyRing legacy = KeyRing.derive(MNEMONIC, 0);
+        KeyRing ring = KeyRing.decode(legacy.encode()).withDeviceId(42);
+
+        Server server = new Server();
+        server.register(ring.get(Stage.MAINNET), 42);
+
+        assertFalse(server.accept(new RequestIdentity(legacy.get(Stage.MAINNET)).createAuthToken()));
+        assertTrue(server.accept(new RequestIdentity(ring.get(Stage.MAINNET)).createAuthToken()));
+    }
+
+    @Test
+    public void serverRejectsUnregisteredKey() throws Exception {
+        OracleKey key = OracleKey.derive(MNEMONIC, Stage.MAINNET, 42);
+        OracleKey other = OracleKey.derive(MNEMONIC, Stage.PREPROD, 42);
+        Server server = new Server();
+        server.register(key, 42);
+
+        assertFalse(server.accept(new RequestIdentity(other).createAuthToken()));
+    }
+
+    @Test
+    public void precomputedPayloadMatchesCborEncoding() throws Exception {
+        OracleKey key = OracleKey.derive(MNEMONIC, Stage.MAINNET, 123456);
+        RequestIdentity identity = new RequestIdentity(key);
+
+        long[] nonces = {0, 23, 24, 1000, 70000, 1700000000123L};
+        for (long nonce : nonces) {
+            byte[] message = CBORObject.NewArray().Add(nonce).Add(123456).EncodeToBytes();
+            byte[] expected = CBORObject.NewArray()
+                .Add(message)
+                .Add(CBORObject.NewArray().Add(key.getPublicKey()).Add(key.sign(message)))
+                .EncodeToBytes();
+
+            assertArrayEquals(expected, identity.createPayload(nonce));
+        }
+    }
+
+    @Test
+    public void deviceIdFromAndroidIdIsStableAndPositive() {
+        int id = RequestIdentity.deviceIdFromAndroidId("9774d56d682e549c");
+
+        assertEquals(id, RequestIdentity.deviceIdFromAndroidId("9774d56d682e549c"));
+        assertTrue(id > 0);
+        assertNotEquals(id, RequestIdentity.deviceIdFromAndroidId("9774d56d682e549d"));
+
+        assertTrue(RequestIdentity.deviceIdFromAndroidId("unknown") > 0);
+        assertEquals(1, RequestIdentity.deviceIdFromAndroidId("0"));
+    }
+}